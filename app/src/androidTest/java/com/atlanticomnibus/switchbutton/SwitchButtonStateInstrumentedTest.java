@@ -0,0 +1,149 @@
+package com.atlanticomnibus.switchbutton;
+
+import android.content.Context;
+import android.os.Parcelable;
+import android.view.LayoutInflater;
+
+import androidx.test.InstrumentationRegistry;
+import androidx.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented tests for attaching a {@link SwitchButtonState} to a {@link SwitchButton} inflated from XML,
+ * and for saving/restoring instance state with a state attached.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SwitchButtonStateInstrumentedTest {
+
+    private SwitchButton inflateFromXml() {
+        Context context = InstrumentationRegistry.getContext();
+        return (SwitchButton) LayoutInflater.from(context)
+                .inflate(com.atlanticomnibus.switchbutton.test.R.layout.test_switch_button, null);
+    }
+
+    private void assertRendersXmlAttributes(SwitchButton button) {
+        assertEquals("XML text", button.getButtonText());
+        assertEquals("XML text", button.getTextView().getText().toString());
+        assertEquals(SwitchButtonState.SWITCH_END, button.getSwitchPosition());
+        assertSame(button.getSwitch(), button.getChildAt(1));
+        assertTrue(button.isChecked());
+        assertTrue(button.getSwitch().isChecked());
+        assertTrue(button.getSwitch().isEnabled());
+    }
+
+    @Test
+    public void attachSeededState_keepsXmlAttributes() {
+        SwitchButton button = inflateFromXml();
+        assertRendersXmlAttributes(button);
+
+        button.attachState(button.getState());
+
+        assertRendersXmlAttributes(button);
+    }
+
+    @Test
+    public void attachDifferentState_replacesXmlAttributes() {
+        SwitchButton button = inflateFromXml();
+        SwitchButtonState state = new SwitchButtonState(SwitchButtonState.SWITCH_START, "Other", false, false);
+
+        button.attachState(state);
+
+        assertSame(state, button.getState());
+        assertEquals("Other", button.getTextView().getText().toString());
+        assertSame(button.getSwitch(), button.getChildAt(0));
+        assertFalse(button.getSwitch().isChecked());
+        assertFalse(button.getSwitch().isEnabled());
+    }
+
+    @Test
+    public void enabledState_appliesClickability() {
+        SwitchButton button = inflateFromXml();
+        assertTrue(button.isClickable());
+
+        button.setEnabled(true);
+        assertTrue(button.isClickable());
+
+        button.setEnabled(false);
+        assertFalse(button.isClickable());
+        assertFalse(button.getSwitch().isEnabled());
+
+        button.getState().setEnabled(true);
+        button.attachState(button.getState());
+        assertTrue(button.isClickable());
+    }
+
+    @Test
+    public void changesToAttachedState_areRendered() {
+        SwitchButton button = inflateFromXml();
+        SwitchButtonState state = button.getState();
+        button.attachState(state);
+
+        state.setChecked(false);
+        state.setButtonText("Changed");
+
+        assertFalse(button.getSwitch().isChecked());
+        assertEquals("Changed", button.getTextView().getText().toString());
+    }
+
+    @Test
+    public void restore_sameButtonWithoutAttachedState_alwaysRestores() {
+        SwitchButton button = inflateFromXml();
+
+        // Like a recycled RecyclerView item: saved, rebound with other values, then restored, more than once
+        for (int i = 0; i < 2; i++) {
+            Parcelable saved = button.onSaveInstanceState();
+
+            button.setChecked(false);
+            button.getState().setButtonText("Other item");
+
+            button.onRestoreInstanceState(saved);
+
+            assertRendersXmlAttributes(button);
+        }
+    }
+
+    @Test
+    public void restore_leavesSurvivingAttachedStateAlone() {
+        SwitchButton oldButton = inflateFromXml();
+        SwitchButtonState state = oldButton.getState();
+        oldButton.attachState(state);
+        Parcelable saved = oldButton.onSaveInstanceState();
+
+        // Changed after saving, e.g. by the ViewModel. The surviving state must win over the Bundle.
+        state.setChecked(false);
+
+        SwitchButton newButton = inflateFromXml();
+        newButton.attachState(state);
+        newButton.onRestoreInstanceState(saved);
+
+        assertFalse(state.isChecked());
+        assertFalse(newButton.getSwitch().isChecked());
+    }
+
+    @Test
+    public void restore_seedsFreshAttachedStateAfterProcessDeath() {
+        SwitchButton oldButton = inflateFromXml();
+        oldButton.attachState(oldButton.getState());
+        oldButton.setChecked(false);
+        oldButton.setEnabled(false);
+        oldButton.getState().setButtonText("Changed");
+        Parcelable saved = oldButton.onSaveInstanceState();
+
+        // Process death: the ViewModel is gone, so a new one gets seeded from the freshly inflated button
+        SwitchButton newButton = inflateFromXml();
+        SwitchButtonState freshState = newButton.getState();
+        newButton.attachState(freshState);
+        newButton.onRestoreInstanceState(saved);
+
+        assertFalse(freshState.isChecked());
+        assertFalse(freshState.isEnabled());
+        assertEquals("Changed", freshState.getButtonText());
+        assertFalse(newButton.getSwitch().isChecked());
+        assertFalse(newButton.getSwitch().isEnabled());
+        assertEquals("Changed", newButton.getTextView().getText().toString());
+    }
+}
@@ -0,0 +1,159 @@
+package com.atlanticomnibus.switchbutton;
+
+import android.app.Instrumentation;
+import android.content.Intent;
+
+import androidx.test.InstrumentationRegistry;
+import androidx.test.runner.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented tests making sure a {@link SwitchButton} only listens to its {@link SwitchButtonState} while attached to a window,
+ * so a state kept in a ViewModel never holds on to a detached button (and its Activity).
+ */
+@RunWith(AndroidJUnit4.class)
+public class SwitchButtonWindowInstrumentedTest {
+
+    private Instrumentation instrumentation;
+    private TestActivity activity;
+    private SwitchButton button;
+    private SwitchButtonState state;
+    private int checkedChangeCount;
+
+    @Before
+    public void setUp() {
+        instrumentation = InstrumentationRegistry.getInstrumentation();
+
+        Intent intent = new Intent(Intent.ACTION_MAIN);
+        intent.setClassName(instrumentation.getTargetContext(), TestActivity.class.getName());
+        intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+        activity = (TestActivity) instrumentation.startActivitySync(intent);
+
+        state = new SwitchButtonState(SwitchButtonState.SWITCH_START, "Text", false, true);
+        checkedChangeCount = 0;
+        runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                button = new SwitchButton(activity);
+                button.setCheckedChangeListener(new SwitchButton.OnCheckedChangeListener() {
+                    @Override
+                    public void onCheckedChanged(SwitchButton buttonView, boolean isChecked) {
+                        checkedChangeCount++;
+                    }
+                });
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        activity.finish();
+    }
+
+    private void runOnMainSync(Runnable runnable) {
+        instrumentation.runOnMainSync(runnable);
+    }
+
+    private void addToWindow() {
+        runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                activity.container.addView(button);
+            }
+        });
+    }
+
+    private void removeFromWindow() {
+        runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                activity.container.removeView(button);
+            }
+        });
+    }
+
+    private void setStateChecked(final boolean checked) {
+        runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                state.setChecked(checked);
+            }
+        });
+    }
+
+    private void attachState() {
+        runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                button.attachState(state);
+            }
+        });
+    }
+
+    @Test
+    public void attachedToWindow_listensToState() {
+        attachState();
+        addToWindow();
+        assertTrue(button.isAttachedToWindow());
+
+        setStateChecked(true);
+
+        assertTrue(button.getSwitch().isChecked());
+        assertEquals(1, checkedChangeCount);
+    }
+
+    @Test
+    public void detachedFromWindow_stopsListening() {
+        attachState();
+        addToWindow();
+        removeFromWindow();
+        assertFalse(button.isAttachedToWindow());
+
+        setStateChecked(true);
+
+        assertFalse(button.getSwitch().isChecked());
+        assertEquals(0, checkedChangeCount);
+    }
+
+    @Test
+    public void attachStateWhileDetached_doesNotListenUntilAttached() {
+        attachState();
+        assertFalse(button.isAttachedToWindow());
+
+        setStateChecked(true);
+
+        assertFalse(button.getSwitch().isChecked());
+        assertEquals(0, checkedChangeCount);
+
+        addToWindow();
+
+        assertTrue(button.getSwitch().isChecked());
+        assertEquals(1, checkedChangeCount);
+
+        setStateChecked(false);
+
+        assertFalse(button.getSwitch().isChecked());
+        assertEquals(2, checkedChangeCount);
+    }
+
+    @Test
+    public void reattachedToWindow_catchesUpOnChanges() {
+        attachState();
+        addToWindow();
+        removeFromWindow();
+
+        setStateChecked(true);
+        assertFalse(button.getSwitch().isChecked());
+
+        addToWindow();
+
+        assertTrue(button.getSwitch().isChecked());
+        assertEquals(1, checkedChangeCount);
+    }
+}
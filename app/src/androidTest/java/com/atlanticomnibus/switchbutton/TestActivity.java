@@ -0,0 +1,20 @@
+package com.atlanticomnibus.switchbutton;
+
+import android.app.Activity;
+import android.os.Bundle;
+import android.widget.FrameLayout;
+
+/**
+ * Bare Activity giving instrumented tests a window to attach a {@link SwitchButton} to.
+ */
+public class TestActivity extends Activity {
+
+    FrameLayout container;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        container = new FrameLayout(this);
+        setContentView(container);
+    }
+}
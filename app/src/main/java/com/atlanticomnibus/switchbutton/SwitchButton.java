@@ -28,6 +28,7 @@ import android.content.res.TypedArray;
 import android.os.Build;
 import android.os.Bundle;
 import android.os.Parcelable;
+import android.text.TextUtils;
 import android.util.AttributeSet;
 import android.util.SparseArray;
 import android.util.TypedValue;
@@ -50,14 +51,17 @@ import androidx.core.content.ContextCompat;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.Map;
+import java.util.UUID;
+import java.util.WeakHashMap;
 
 
 public class SwitchButton extends LinearLayout {
 
 
     /**************************************Public constants****************************************/
-    private static final int SWITCH_START=0;
-    private static final int SWITCH_END=1;
+    private static final int SWITCH_START=SwitchButtonState.SWITCH_START;
+    private static final int SWITCH_END=SwitchButtonState.SWITCH_END;
 
     /*************************************Private constants****************************************/
     private final int DEFAULT_SWITCH_PADDING,
@@ -85,17 +89,23 @@ public class SwitchButton extends LinearLayout {
 
 
     /*************************************Member variables*****************************************/
-    private String buttonText;
-    private int switchPosition;
+    private SwitchButtonState state;
+    private boolean isStateAttached;
+    private int renderedSwitchPosition=-1;
     private int switchPadding;
-    private boolean isChecked;
-    private boolean isEnabled;
     private boolean isDynamicallyCreated;
 
 
     /************************************A good listener always listens****************************/
     private OnCheckedChangeListener checkedChangeListener;
 
+    private final SwitchButtonState.OnStateChangeListener stateChangeListener=new SwitchButtonState.OnStateChangeListener() {
+        @Override
+        public void onStateChanged(SwitchButtonState state) {
+            renderState(false);
+        }
+    };
+
 
     /***************************************Constructors*******************************************/
 
@@ -109,7 +119,7 @@ public class SwitchButton extends LinearLayout {
         super(context);
         DEFAULT_SWITCH_PADDING=(int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 8, getResources().getDisplayMetrics());
         VIEW_VERTICAL_PADDING=(int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 8, getResources().getDisplayMetrics());
-        switchPosition=SWITCH_START;
+        state=new SwitchButtonState();
         switchPadding =DEFAULT_SWITCH_PADDING;
         isDynamicallyCreated=true;
         initSwitchButton(context);
@@ -130,7 +140,7 @@ public class SwitchButton extends LinearLayout {
         super(context);
         DEFAULT_SWITCH_PADDING=(int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 8, getResources().getDisplayMetrics());
         VIEW_VERTICAL_PADDING=(int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 8, getResources().getDisplayMetrics());
-        switchPosition=position;
+        state=new SwitchButtonState(position, null, false, true);
         isDynamicallyCreated=true;
         initSwitchButton(context);
     }
@@ -175,10 +185,11 @@ public class SwitchButton extends LinearLayout {
                 R.styleable.SwitchButton,
                 0, 0);
         try {
-            switchPosition=a.getInteger(R.styleable.SwitchButton_switchPosition, SWITCH_START);
-            isChecked=a.getBoolean(R.styleable.SwitchButton_checked, false);
-            isEnabled=a.getBoolean(R.styleable.SwitchButton_enabled, true);
-            buttonText=a.getString(R.styleable.SwitchButton_text);
+            state=new SwitchButtonState(
+                    a.getInteger(R.styleable.SwitchButton_switchPosition, SWITCH_START),
+                    a.getString(R.styleable.SwitchButton_text),
+                    a.getBoolean(R.styleable.SwitchButton_checked, false),
+                    a.getBoolean(R.styleable.SwitchButton_enabled, true));
             switchPadding =a.getDimensionPixelSize(R.styleable.SwitchButton_toggleSwitchPadding, DEFAULT_SWITCH_PADDING);
         } finally {
             a.recycle();
@@ -221,26 +232,13 @@ public class SwitchButton extends LinearLayout {
         switchToggle=findViewById(R.id.switch_toggle);
         buttonTextView =findViewById(R.id.switcbutton_text);
 
-        setSwitchPosition(switchPosition);
-        buttonTextView.setText(buttonText);
         buttonTextView.setTextColor(resolvePrimaryColour());
-        switchToggle.setChecked(isChecked);
-        switchToggle.setEnabled(isEnabled);
-
-        if(!isEnabled){
-            this.setAlpha(0.5f);
-        } else {
-            this.setAlpha(1.0f);
-            TypedValue outValue = new TypedValue();
-            getContext().getTheme().resolveAttribute(
-                    android.R.attr.selectableItemBackground, outValue, true);
-            this.setForeground(getContext().getDrawable(outValue.resourceId));
-        }
+        renderState(true);
 
         setOnTouchListener(new OnTouchListener() {
             @Override
             public boolean onTouch(View v, MotionEvent event) {
-                if(event.getAction()==MotionEvent.ACTION_DOWN && isEnabled){
+                if(event.getAction()==MotionEvent.ACTION_DOWN && state.isEnabled()){
                     toggle();
                 }
                 return false;
@@ -250,6 +248,7 @@ public class SwitchButton extends LinearLayout {
         switchToggle.setOnCheckedChangeListener(new CompoundButton.OnCheckedChangeListener() {
             @Override
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
+                state.setChecked(isChecked);
                 if(checkedChangeListener!=null) {
                     checkedChangeListener.onCheckedChanged(SwitchButton.this, isChecked);
                 }
@@ -258,6 +257,86 @@ public class SwitchButton extends LinearLayout {
     }
 
 
+    /**
+     * <p>Brings the component views in line with the {@link SwitchButtonState} currently attached. Only the bits that actually differ
+     * get touched, so re-attaching an unchanged state (e.g. after a configuration change) costs next to nothing.
+     * Does nothing until the component views are inflated.</p>
+     *
+     * @param initial true when called right after inflation, in which case everything is applied regardless
+     */
+    private void renderState(boolean initial){
+
+        if(switchToggle==null){
+            return;
+        }
+
+        if(initial || renderedSwitchPosition!=state.getSwitchPosition()){
+            setSwitchPosition(state.getSwitchPosition());
+        }
+
+        // TextView stores null as "", so compare against that, or null text would be set (and laid out) on every render
+        String text=state.getButtonText();
+        if(initial || !TextUtils.equals(buttonTextView.getText(), text==null ? "" : text)){
+            buttonTextView.setText(text);
+        }
+
+        if(switchToggle.isChecked()!=state.isChecked()){
+            switchToggle.setChecked(state.isChecked());
+        }
+
+        if(initial || switchToggle.isEnabled()!=state.isEnabled()){
+            applyEnabledState();
+        }
+    }
+
+    /**
+     * <p>Applies the enabled state to the component views: enabled state of the {@link android.widget.Switch}, clickability, alpha
+     * and the selectable foreground of the whole. Does nothing until the component views are inflated.</p>
+     *
+     * <p>The {@link SuppressLint} annotation is required to address Android bug <a href="https://issuetracker.google.com/37065042">#37065042</a> "setForeground()
+     * incorrectly flagged as requiring API 23 (NewApi) for ViewGroups extending FrameLayout"</p>
+     */
+    @SuppressLint("NewApi")
+    private void applyEnabledState(){
+
+        if(switchToggle==null){
+            return;
+        }
+
+        boolean enabled=state.isEnabled();
+        switchToggle.setEnabled(enabled);
+        this.setClickable(enabled);
+
+        if(!enabled){
+            this.setAlpha(0.5f);
+        } else {
+            this.setAlpha(1.0f);
+            TypedValue outValue = new TypedValue();
+            getContext().getTheme().resolveAttribute(
+                    android.R.attr.selectableItemBackground, outValue, true);
+            this.setForeground(getContext().getDrawable(outValue.resourceId));
+        }
+    }
+
+    /**
+     * <p>Start listening to the state again when (re)attached, and catch up on anything that changed while we were away</p>
+     */
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        state.addOnStateChangeListener(stateChangeListener);
+        renderState(false);
+    }
+
+    /**
+     * <p>Stop listening when detached, so a state kept in a ViewModel does not hold on to this view (and its Activity)</p>
+     */
+    @Override
+    protected void onDetachedFromWindow() {
+        state.removeOnStateChangeListener(stateChangeListener);
+        super.onDetachedFromWindow();
+    }
+
     /**
      * <p>An attempt to resolve application's primary colour ina failsafe way. if nothing helps, use the declared default</p>
      *
@@ -303,12 +382,12 @@ public class SwitchButton extends LinearLayout {
     /****************Getters and setters and stuff (mostly stuff)**********************************/
 
     /**
-     * <p>Mimics the {@link android.widget.Switch} class's {@link android.widget.Switch#toggle()} method. OK, not really, but has the same result, calling {@link android.widget.Switch#toggle()} on the
-     * {@link android.widget.Switch} component view</p>
+     * <p>Mimics the {@link android.widget.Switch} class's {@link android.widget.Switch#toggle()} method. OK, not really, but has the same result, flipping the checked state of the
+     * attached {@link SwitchButtonState}, which the {@link android.widget.Switch} component view then follows</p>
      */
     private void toggle(){
-        switchToggle.toggle();
-        isChecked=switchToggle.isChecked();
+        state.toggle();
+        renderState(false);
     }
 
     /**
@@ -321,7 +400,7 @@ public class SwitchButton extends LinearLayout {
      * @return {@value SWITCH_START} ({@link this#SWITCH_START}) for left position and {@value SWITCH_END} ({@link this#SWITCH_END}) for right position
      */
     public int getSwitchPosition() {
-        return switchPosition;
+        return state.getSwitchPosition();
     }
 
     /**
@@ -347,7 +426,7 @@ public class SwitchButton extends LinearLayout {
          * (plus the aforementioned hackery), so this approach is ultimately simpler, if not cheaper
          */
 
-        this.switchPosition = switchPosition;
+        renderedSwitchPosition = switchPosition;
 
         removeAllViews();
         MarginLayoutParams switchViewParams = (LinearLayout.MarginLayoutParams) switchToggle.getLayoutParams();
@@ -373,7 +452,7 @@ public class SwitchButton extends LinearLayout {
      * @return The button text as a {@link String}
      */
     public String getButtonText() {
-        return buttonText;
+        return state.getButtonText();
     }
 
     /**
@@ -400,8 +479,8 @@ public class SwitchButton extends LinearLayout {
      * @param text The text {@link String} received to be set
      */
     private void setText(String text){
-        this.buttonText = text;
-        buttonTextView.setText(buttonText);
+        state.setButtonText(text);
+        renderState(false);
     }
 
     /**
@@ -410,7 +489,7 @@ public class SwitchButton extends LinearLayout {
      * @return true when {@link android.widget.Switch} is engaged, false when it is not
      */
     public boolean isChecked() {
-        return this.switchToggle.isChecked();
+        return state.isChecked();
     }
 
     /**
@@ -419,8 +498,8 @@ public class SwitchButton extends LinearLayout {
      * @param checked boolean for checked state to be set
      */
     public void setChecked(boolean checked) {
-        isChecked = checked;
-        switchToggle.setChecked(isChecked);
+        state.setChecked(checked);
+        renderState(false);
     }
 
 
@@ -431,36 +510,19 @@ public class SwitchButton extends LinearLayout {
      */
     @Override
     public boolean isEnabled() {
-        return isEnabled;
+        return state!=null ? state.isEnabled() : super.isEnabled();
     }
 
     /**
      * <p>Sets the enabled state of the widget either true or false. This will set the enabled state of each component view,
      * and the alpha value of the whole. Also makes every thing unclickable when disabled.</p>
      *
-     * <p>Note: The {@link SuppressLint} annotation is required to address Android bug <a hrtef=" https://issuetracker.google.com/37065042">#37065042</a>
-     * ("setForeground() incorrectly flagged as requiring API 23 (NewApi) for ViewGroups extending FrameLayout")/p>
-     *
      * @param enabled boolean for the state to be set
      */
-    @SuppressLint("NewApi")
     @Override
     public void setEnabled(boolean enabled) {
-        isEnabled = enabled;
-
-        switchToggle.setEnabled(isEnabled);
-
-        if(!isEnabled){
-            this.setAlpha(0.5f);
-            this.setClickable(false);
-        } else {
-            this.setClickable(true);
-            this.setAlpha(1.0f);
-            TypedValue outValue = new TypedValue();
-            getContext().getTheme().resolveAttribute(
-                    android.R.attr.selectableItemBackground, outValue, true);
-            this.setForeground(getContext().getDrawable(outValue.resourceId));
-        }
+        state.setEnabled(enabled);
+        applyEnabledState();
     }
 
     /**
@@ -481,6 +543,47 @@ public class SwitchButton extends LinearLayout {
         this.checkedChangeListener = checkedChangeListener;
     }
 
+    /**
+     * <p>Returns the {@link SwitchButtonState} this button renders from. Keep hold of it (e.g. in a ViewModel) and pass it to
+     * {@link this#attachState(SwitchButtonState)} on the next instance after a configuration change</p>
+     *
+     * @return the {@link SwitchButtonState} currently attached
+     */
+    public SwitchButtonState getState() {
+        return state;
+    }
+
+    /**
+     * <p>Makes this button render from the supplied {@link SwitchButtonState} instead of its own. The view is updated straight away,
+     * and follows any later change made to the state, from whichever side. Its values still go into the instance state Bundle,
+     * but are not restored into it if it is the very state the Bundle was written from (i.e. it survived, e.g. in a ViewModel over a
+     * configuration change), see {@link this#onRestoreInstanceState(Parcelable)}.</p>
+     *
+     * <p>Note: The attached state replaces whatever the button read from its XML attributes (text, switch position, checked and enabled).
+     * To keep those, seed the state from the button itself the first time round, as below.</p>
+     *
+     * <p>Example usage, with the state held in a ViewModel:<br />
+     *     if(viewModel.switchButtonState == null) viewModel.switchButtonState = switchButton.getState();<br />
+     *     switchButton.attachState(viewModel.switchButtonState);
+     * </p>
+     *
+     * @param newState the {@link SwitchButtonState} to attach, must not be null
+     */
+    public void attachState(SwitchButtonState newState) {
+        if(newState==null){
+            throw new IllegalArgumentException("SwitchButtonState must not be null");
+        }
+
+        state.removeOnStateChangeListener(stateChangeListener);
+        state=newState;
+        isStateAttached=true;
+
+        if(isAttachedToWindow()){
+            state.addOnStateChangeListener(stateChangeListener);
+        }
+        renderState(false);
+    }
+
     /**
      * <p>Set The {@link android.widget.Switch} component's padding (its distance from the button text) in {@link TypedValue#COMPLEX_UNIT_DIP}</p>
      *
@@ -547,12 +650,20 @@ public class SwitchButton extends LinearLayout {
     private static final String IS_CHECKED_VALUE="IsChecked";
     private static final String IS_ENABLED_VALUE="IsEnabled";
     private static final String IS_DYNAMICALLY_CREATED_VALUE="IsDynamicallyCreated";
+    private static final String ATTACHED_STATE_ID_VALUE="AttachedStateId";
 
     private static final String STATE_SUPER_CLASS = "SuperClass";
 
+    /**
+     * Ids of the attached states that were ever saved, so a restore can tell whether it is dealing with the very same state object
+     * it saved from. Weak keys, so nothing is kept alive here, and a new process simply starts with an empty map.
+     */
+    private static final Map<SwitchButtonState, String> ATTACHED_STATE_IDS=new WeakHashMap<>();
+
     /**
      * <p>We don't really like the original {@link super#onSaveInstanceState} so we override it, and tell it to save everything of interest.<br />
-     * And it does.</p>
+     * And it does, even for a {@link SwitchButtonState} attached with {@link this#attachState(SwitchButtonState)}, because a ViewModel
+     * does not survive process death. An attached state also gets its id saved, see {@link this#onRestoreInstanceState(Parcelable)}.</p>
      *
      * @return a Parcelable object (The newly created Bundle)
      */
@@ -560,37 +671,50 @@ public class SwitchButton extends LinearLayout {
     protected Parcelable onSaveInstanceState() {
         Bundle bundle = new Bundle();
         bundle.putParcelable(STATE_SUPER_CLASS, super.onSaveInstanceState());
-        bundle.putInt(SWITCH_POSITION_VALUE, this.switchPosition);
-        bundle.putString(BUTTON_TEXT_VALUE, this.buttonText);
-        bundle.putBoolean(IS_CHECKED_VALUE, this.isChecked);
-        bundle.putBoolean(IS_ENABLED_VALUE, this.isEnabled);
+        bundle.putInt(SWITCH_POSITION_VALUE, state.getSwitchPosition());
+        bundle.putString(BUTTON_TEXT_VALUE, state.getButtonText());
+        bundle.putBoolean(IS_CHECKED_VALUE, state.isChecked());
+        bundle.putBoolean(IS_ENABLED_VALUE, state.isEnabled());
         bundle.putBoolean(IS_DYNAMICALLY_CREATED_VALUE, this.isDynamicallyCreated);
+        if(isStateAttached) {
+            String stateId = ATTACHED_STATE_IDS.get(state);
+            if (stateId == null) {
+                stateId = UUID.randomUUID().toString();
+                ATTACHED_STATE_IDS.put(state, stateId);
+            }
+            bundle.putString(ATTACHED_STATE_ID_VALUE, stateId);
+        }
         return bundle;
     }
 
     /**
      * <p>We don't really like the original {@link super#onRestoreInstanceState} so we override it, and tell to to restore everything of interest.<br />
-     * And it does.</p>
+     * And it does, straight into the {@link SwitchButtonState}, which renders whatever actually changed. The only exception is a state
+     * attached with {@link this#attachState(SwitchButtonState)} that the Bundle was written from: that one survived (e.g. attached again from
+     * a ViewModel after a configuration change), so it is left alone instead of being replayed. Anything else, like the button's own state
+     * or one newly seeded after process death, gets the saved values.</p>
      *
-     * @param state a {@link android.os.Parcelable} object containing the tate we are restoring
+     * @param savedState a {@link android.os.Parcelable} object containing the tate we are restoring
      */
     @Override
-    protected void onRestoreInstanceState(Parcelable state) {
+    protected void onRestoreInstanceState(Parcelable savedState) {
 
-        if (state instanceof Bundle) {
-            Bundle bundle = (Bundle) state;
+        if (savedState instanceof Bundle) {
+            Bundle bundle = (Bundle) savedState;
 
             super.onRestoreInstanceState(bundle.getParcelable(STATE_SUPER_CLASS));
-            this.switchPosition=bundle.getInt(SWITCH_POSITION_VALUE);
-            this.buttonText=bundle.getString(BUTTON_TEXT_VALUE);
-            this.isChecked=bundle.getBoolean(IS_CHECKED_VALUE);
-            this.isEnabled=bundle.getBoolean(IS_ENABLED_VALUE);
             this.isDynamicallyCreated=bundle.getBoolean(IS_DYNAMICALLY_CREATED_VALUE);
 
-            setSwitchPosition(switchPosition);
-            setButtonText(buttonText);
-            setChecked(isChecked);
-            setEnabled(isEnabled);
+            boolean isSurvivingState=isStateAttached
+                    && ATTACHED_STATE_IDS.containsKey(state)
+                    && ATTACHED_STATE_IDS.get(state).equals(bundle.getString(ATTACHED_STATE_ID_VALUE));
+
+            if(!isSurvivingState && bundle.containsKey(SWITCH_POSITION_VALUE)) {
+                state.setSwitchPosition(bundle.getInt(SWITCH_POSITION_VALUE));
+                state.setButtonText(bundle.getString(BUTTON_TEXT_VALUE));
+                state.setChecked(bundle.getBoolean(IS_CHECKED_VALUE));
+                state.setEnabled(bundle.getBoolean(IS_ENABLED_VALUE));
+            }
         }
     }
 
@@ -0,0 +1,218 @@
+/*
+ * SwitchButton v1.0
+ *
+ * Copyright (c) 2019 Attila Orosz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do
+ * so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A
+ * PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN
+ * ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH
+ * THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.atlanticomnibus.switchbutton;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * <p>Plain Java model holding everything a {@link SwitchButton} displays: switch position, button text, checked and enabled state.
+ * It has no dependency on any Android View, so it can be kept in a ViewModel (or anywhere else that outlives the Activity)
+ * and simply be re-attached to the new {@link SwitchButton} after a configuration change, instead of being serialised into a
+ * Bundle and replayed.</p>
+ *
+ * <p>Changes are pushed to any registered {@link OnStateChangeListener}. Setting a value equal to the current one does nothing,
+ * and notifies nobody. Not thread safe, use it from the main thread only, same as the view itself.</p>
+ */
+public class SwitchButtonState {
+
+
+    /**************************************Public constants****************************************/
+    public static final int SWITCH_START=0;
+    public static final int SWITCH_END=1;
+
+
+    /*************************************Member variables*****************************************/
+    private int switchPosition;
+    private String buttonText;
+    private boolean isChecked;
+    private boolean isEnabled;
+
+
+    /************************************A good listener always listens****************************/
+    private final List<OnStateChangeListener> stateChangeListeners=new ArrayList<>();
+
+
+    /***************************************Constructors*******************************************/
+
+    /**
+     * <p>Creates a state with the same defaults a freshly created {@link SwitchButton} would have: switch at the start,
+     * no text, unchecked and enabled</p>
+     */
+    public SwitchButtonState() {
+        this(SWITCH_START, null, false, true);
+    }
+
+    /**
+     * <p>Creates a state with all values explicitly set</p>
+     *
+     * @param switchPosition Either {@link #SWITCH_START} ({@value SWITCH_START}), or {@link #SWITCH_END} ({@value SWITCH_END})
+     * @param buttonText The button text, may be null
+     * @param checked Initial checked state
+     * @param enabled Initial enabled state
+     */
+    public SwitchButtonState(int switchPosition, String buttonText, boolean checked, boolean enabled) {
+        this.switchPosition=switchPosition;
+        this.buttonText=buttonText;
+        this.isChecked=checked;
+        this.isEnabled=enabled;
+    }
+
+
+    /****************Getters and setters and stuff (mostly stuff)**********************************/
+
+    /**
+     * <p>Gets the position of the switch relative to the text</p>
+     *
+     * @return {@value SWITCH_START} ({@link #SWITCH_START}) or {@value SWITCH_END} ({@link #SWITCH_END})
+     */
+    public int getSwitchPosition() {
+        return switchPosition;
+    }
+
+    /**
+     * <p>Sets the position of the switch relative to the text. Anything other than {@link #SWITCH_START} will be treated
+     * as {@link #SWITCH_END} when rendered</p>
+     *
+     * @param switchPosition Either {@link #SWITCH_START} ({@value SWITCH_START}), or {@link #SWITCH_END} ({@value SWITCH_END})
+     */
+    public void setSwitchPosition(int switchPosition) {
+        if(this.switchPosition!=switchPosition) {
+            this.switchPosition = switchPosition;
+            notifyStateChanged();
+        }
+    }
+
+    /**
+     * <p>Gets the current button text</p>
+     *
+     * @return The button text as a {@link String}, may be null
+     */
+    public String getButtonText() {
+        return buttonText;
+    }
+
+    /**
+     * <p>Sets the button text</p>
+     *
+     * @param buttonText the text to set, as {@link String}
+     */
+    public void setButtonText(String buttonText) {
+        if(buttonText==null ? this.buttonText!=null : !buttonText.equals(this.buttonText)) {
+            this.buttonText = buttonText;
+            notifyStateChanged();
+        }
+    }
+
+    /**
+     * <p>Returns the checked state</p>
+     *
+     * @return true when checked, false when not
+     */
+    public boolean isChecked() {
+        return isChecked;
+    }
+
+    /**
+     * <p>Sets the checked state</p>
+     *
+     * @param checked boolean for checked state to be set
+     */
+    public void setChecked(boolean checked) {
+        if(this.isChecked!=checked) {
+            this.isChecked = checked;
+            notifyStateChanged();
+        }
+    }
+
+    /**
+     * <p>Flips the checked state</p>
+     */
+    public void toggle() {
+        setChecked(!isChecked);
+    }
+
+    /**
+     * <p>Returns the enabled state</p>
+     *
+     * @return enabled state as a boolean
+     */
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     * <p>Sets the enabled state</p>
+     *
+     * @param enabled boolean for the state to be set
+     */
+    public void setEnabled(boolean enabled) {
+        if(this.isEnabled!=enabled) {
+            this.isEnabled = enabled;
+            notifyStateChanged();
+        }
+    }
+
+
+    /**************************************Listener(s?)*******************************************/
+
+    /**
+     * <p>Registers a listener to be notified of any change. Adding the same listener twice has no effect</p>
+     *
+     * @param listener an {@link OnStateChangeListener} object to be added
+     */
+    public void addOnStateChangeListener(OnStateChangeListener listener) {
+        if(listener!=null && !stateChangeListeners.contains(listener)) {
+            stateChangeListeners.add(listener);
+        }
+    }
+
+    /**
+     * <p>Unregisters a previously added listener. Does nothing if it was never added</p>
+     *
+     * @param listener an {@link OnStateChangeListener} object to be removed
+     */
+    public void removeOnStateChangeListener(OnStateChangeListener listener) {
+        stateChangeListeners.remove(listener);
+    }
+
+    /**
+     * <p>Tells every registered listener that something changed. Iterates over a copy, so listeners are free to
+     * remove themselves (or change the state further) while being notified</p>
+     */
+    private void notifyStateChanged() {
+        for (OnStateChangeListener listener : new ArrayList<>(stateChangeListeners)) {
+            listener.onStateChanged(this);
+        }
+    }
+
+    /**
+     * <p>Listens for changes of any value held by a {@link SwitchButtonState}. {@link SwitchButton} uses this to render itself,
+     * but anybody else is welcome to listen too</p>
+     */
+    public interface OnStateChangeListener {
+        void onStateChanged(SwitchButtonState state);
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.atlanticomnibus.switchbutton;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link SwitchButtonState}, no Android framework needed.
+ */
+public class SwitchButtonStateTest {
+
+    private SwitchButtonState state;
+    private int notificationCount;
+
+    @Before
+    public void setUp() {
+        state = new SwitchButtonState();
+        notificationCount = 0;
+        state.addOnStateChangeListener(new SwitchButtonState.OnStateChangeListener() {
+            @Override
+            public void onStateChanged(SwitchButtonState changed) {
+                assertSame(state, changed);
+                notificationCount++;
+            }
+        });
+    }
+
+    @Test
+    public void defaults_matchFreshSwitchButton() {
+        assertEquals(SwitchButtonState.SWITCH_START, state.getSwitchPosition());
+        assertNull(state.getButtonText());
+        assertFalse(state.isChecked());
+        assertTrue(state.isEnabled());
+    }
+
+    @Test
+    public void setters_notifyOnlyOnChange() {
+        state.setChecked(false);
+        state.setEnabled(true);
+        state.setSwitchPosition(SwitchButtonState.SWITCH_START);
+        state.setButtonText(null);
+        assertEquals(0, notificationCount);
+
+        state.setChecked(true);
+        state.setEnabled(false);
+        state.setSwitchPosition(SwitchButtonState.SWITCH_END);
+        state.setButtonText("Text");
+        assertEquals(4, notificationCount);
+
+        state.setButtonText(new String("Text"));
+        assertEquals(4, notificationCount);
+    }
+
+    @Test
+    public void toggle_flipsChecked() {
+        state.toggle();
+        assertTrue(state.isChecked());
+        state.toggle();
+        assertFalse(state.isChecked());
+        assertEquals(2, notificationCount);
+    }
+
+    @Test
+    public void removedListener_isNotNotified() {
+        final int[] count = {0};
+        SwitchButtonState.OnStateChangeListener listener = new SwitchButtonState.OnStateChangeListener() {
+            @Override
+            public void onStateChanged(SwitchButtonState changed) {
+                count[0]++;
+            }
+        };
+        state.addOnStateChangeListener(listener);
+        state.addOnStateChangeListener(listener);
+        state.setChecked(true);
+        assertEquals(1, count[0]);
+
+        state.removeOnStateChangeListener(listener);
+        state.setChecked(false);
+        assertEquals(1, count[0]);
+    }
+}